@@ -0,0 +1,253 @@
+package de.tgx03.matrix;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A backend for matrices over GF(2)
+ * Every entry is stored as a single bit, so that line operations become XORs over whole words
+ * Multiplication and elimination use the Method of Four Russians,
+ * which handles multiple columns at once using precomputed tables of line combinations
+ */
+final class BinaryBackend extends MatrixBackend {
+
+    /**
+     * How many columns get handled by a single table
+     */
+    private static final int BLOCK = 8;
+
+    private final long[][] lines;
+    private final int words;
+
+    /**
+     * Creates a new empty backend with given dimensions
+     *
+     * @param x The width of the matrix
+     * @param y The height of the matrix
+     */
+    BinaryBackend(int x, int y) {
+        super(x, y, 2);
+        this.words = (x + Long.SIZE - 1) / Long.SIZE;
+        this.lines = new long[y][this.words];
+    }
+
+    @Override
+    long getValue(int x, int y) {
+        Objects.checkIndex(x, this.x);
+        return (this.lines[y][x >>> 6] >>> x) & 1L;
+    }
+
+    @Override
+    void setValue(int x, int y, long value) {
+        Objects.checkIndex(x, this.x);
+        checkValue(value, 2);
+        if (value == 0L) {
+            this.lines[y][x >>> 6] &= ~(1L << x);
+        } else {
+            this.lines[y][x >>> 6] |= 1L << x;
+        }
+    }
+
+    @Override
+    void exchangeLines(int i, int j) {
+        long[] first = lines[i];
+        lines[i] = lines[j];
+        lines[j] = first;
+    }
+
+    @Override
+    void addLines(int source, int target, long factor) {
+        if (factor != 0L) {
+            xor(lines[target], lines[source], 0);
+        }
+    }
+
+    @Override
+    long findFactor(long fixed, long toFactor) {
+        return fixed;
+    }
+
+    @Override
+    MatrixBackend multiply(MatrixBackend matrix) {
+        if (!(matrix instanceof BinaryBackend other)) {
+            return toGeneric().multiply(matrix);
+        }
+        BinaryBackend result = new BinaryBackend(other.x, this.y);
+        for (int column = 0; column < this.x; column += BLOCK) {
+            final int count = Math.min(BLOCK, this.x - column);
+            final int start = column;
+            final long[][] table = combinations(other.lines, column, count, result.words, 0);
+            lines(this.y).forEach(line -> {
+                int index = bits(this.lines[line], start, count);
+                if (index != 0) {
+                    xor(result.lines[line], table[index], 0);
+                }
+            });
+        }
+        return result;
+    }
+
+    @Override
+    long[] multiply(long[] vector) {
+        final long[] packed = new long[this.words];
+        for (int i = 0; i < this.x; i++) {
+            packed[i >>> 6] |= vector[i] << i;
+        }
+        long[] result = new long[this.y];
+        lines(this.y).forEach(line -> {
+            int parity = 0;
+            for (int i = 0; i < this.words; i++) {
+                parity ^= Long.bitCount(this.lines[line][i] & packed[i]);
+            }
+            result[line] = parity & 1;
+        });
+        return result;
+    }
+
+    @Override
+    void eliminate() {
+        final int limit = Math.min(this.x, this.y);
+        int column = 0;
+        boolean missing = false;
+        while (column < limit && !missing) {
+            final int count = Math.min(BLOCK, limit - column);
+            final int first = column >>> 6;
+            final int[] pivots = new int[count];
+            int found = 0;
+
+            // Find the pivots of this block, only reducing the lines which become pivots
+            while (found < count) {
+                int target = column + found;
+                int line = target;
+                while (line < this.y && (reduce(bits(lines[line], column, count), pivots, found) >>> found & 1) == 0) {
+                    line++;
+                }
+                if (line == this.y) {
+                    missing = true;
+                    break;
+                }
+                if (line != target) {
+                    exchangeLines(line, target);
+                }
+                int combination = reduce(bits(lines[target], column, count), pivots, found);
+                for (int pivot = 0; pivot < found; pivot++) {
+                    if ((combination >>> pivot & 1) != 0) {
+                        xor(lines[target], lines[column + pivot], first);
+                    }
+                }
+                pivots[found] = bits(lines[target], column, count);
+                found++;
+            }
+
+            // Clear the block below the pivots using a table of all pivot combinations
+            if (found > 0) {
+                final int start = column;
+                final int size = found;
+                final long[][] table = combinations(lines, column, found, this.words, first);
+                final int[] lookup = new int[1 << found];
+                for (int pattern = 1; pattern < lookup.length; pattern++) {
+                    lookup[pattern] = reduce(pattern, pivots, found) & (lookup.length - 1);
+                }
+                lines(this.y - column - found).forEach(offset -> {
+                    int line = start + size + offset;
+                    int index = lookup[bits(this.lines[line], start, size)];
+                    if (index != 0) {
+                        xor(this.lines[line], table[index], first);
+                    }
+                });
+            }
+            column += found;
+        }
+    }
+
+    /**
+     * Builds a table holding every sum of the given consecutive lines
+     * The sum at index i contains all lines whose bit is set in i
+     *
+     * @param lines The lines of the matrix
+     * @param start The first line to combine
+     * @param count How many lines to combine
+     * @param words The amount of words in a line
+     * @param first The first word which may be non-zero in the combined lines
+     * @return The table of all combinations
+     */
+    private static long[][] combinations(long[][] lines, int start, int count, int words, int first) {
+        long[][] table = new long[1 << count][];
+        table[0] = new long[words];
+        for (int index = 1; index < table.length; index++) {
+            long[] combination = table[index & (index - 1)].clone();
+            xor(combination, lines[start + Integer.numberOfTrailingZeros(index)], first);
+            table[index] = combination;
+        }
+        return table;
+    }
+
+    /**
+     * Applies the pivots of a block to the bits of a line in that block
+     * The lower bits of the result tell which pivots were added,
+     * the bits from the amount of pivots on are the remaining bits of the line
+     *
+     * @param pattern The bits of the line in the current block
+     * @param pivots  The bits of the pivots in the current block
+     * @param count   How many pivots were already found
+     * @return The added pivots and the reduced bits
+     */
+    private static int reduce(int pattern, int[] pivots, int count) {
+        int added = 0;
+        for (int pivot = 0; pivot < count; pivot++) {
+            if ((pattern >>> pivot & 1) != 0) {
+                pattern ^= pivots[pivot];
+                added |= 1 << pivot;
+            }
+        }
+        return pattern | added;
+    }
+
+    /**
+     * Reads a few consecutive bits from a line
+     *
+     * @param line   The line to read from
+     * @param column The column of the first bit
+     * @param count  How many bits to read, at most 32
+     * @return The read bits with the first column as lowest bit
+     */
+    private static int bits(long[] line, int column, int count) {
+        int word = column >>> 6;
+        int shift = column & 63;
+        long value = line[word] >>> shift;
+        if (shift + count > Long.SIZE && word + 1 < line.length) {
+            value |= line[word + 1] << (Long.SIZE - shift);
+        }
+        return (int) (value & ((1L << count) - 1));
+    }
+
+    /**
+     * Adds a line to another line
+     *
+     * @param target The line to add to
+     * @param source The line to add
+     * @param first  The first word which may be non-zero in the source
+     */
+    private static void xor(long[] target, long[] source, int first) {
+        for (int i = first; i < target.length; i++) {
+            target[i] ^= source[i];
+        }
+    }
+
+    @Override
+    public BinaryBackend clone() {
+        BinaryBackend clone = new BinaryBackend(this.x, this.y);
+        for (int y = 0; y < this.y; y++) {
+            System.arraycopy(this.lines[y], 0, clone.lines[y], 0, this.words);
+        }
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof BinaryBackend that) {
+            return x == that.x && y == that.y && Arrays.deepEquals(lines, that.lines);
+        }
+        return super.equals(o);
+    }
+}
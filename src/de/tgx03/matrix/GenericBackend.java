@@ -0,0 +1,163 @@
+package de.tgx03.matrix;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A backend storing every entry as a residue class integer
+ * Used for all residues no specialized backend exists for
+ */
+final class GenericBackend extends MatrixBackend {
+
+    private final ResidueClassInteger[][] matrix;
+
+    /**
+     * Creates a new empty backend with given dimensions
+     *
+     * @param x       The width of the matrix
+     * @param y       The height of the matrix
+     * @param residue The residue class all entries belong to
+     */
+    GenericBackend(int x, int y, long residue) {
+        super(x, y, residue);
+        this.matrix = new ResidueClassInteger[y][x];
+    }
+
+    @Override
+    long getValue(int x, int y) {
+        return this.matrix[y][x].value;
+    }
+
+    @Override
+    void setValue(int x, int y, long value) {
+        this.matrix[y][x] = new ResidueClassInteger(value, this.residue);
+    }
+
+    @Override
+    ResidueClassInteger get(int x, int y) {
+        return this.matrix[y][x];
+    }
+
+    @Override
+    void set(int x, int y, ResidueClassInteger value) {
+        this.matrix[y][x] = value;
+    }
+
+    @Override
+    void exchangeLines(int i, int j) {
+        ResidueClassInteger[] first = matrix[i];
+        matrix[i] = matrix[j];
+        matrix[j] = first;
+    }
+
+    @Override
+    void addLines(int source, int target, long factor) {
+        ResidueClassInteger multiple = new ResidueClassInteger(factor, this.residue);
+        for (int i = 0; i < this.x; i++) {
+            matrix[target][i] = matrix[target][i].add(matrix[source][i].multiply(multiple));
+        }
+    }
+
+    @Override
+    long findFactor(long fixed, long toFactor) {
+        long current = 0;
+        while (((current * toFactor) + fixed) % this.residue != 0) {
+            current++;
+        }
+        return current;
+    }
+
+    @Override
+    MatrixBackend multiply(MatrixBackend matrix) {
+        GenericBackend result = new GenericBackend(matrix.x, this.y, this.residue);
+        if (this.y >= matrix.x) {
+            IntStream.range(0, this.y).parallel().forEach(y -> {
+                for (int x = 0; x < matrix.x; x++) {
+                    result.matrix[y][x] = multiplyPosition(x, y, matrix);
+                }
+            });
+        } else {
+            IntStream.range(0, matrix.x).parallel().forEach(x -> {
+                for (int y = 0; y < this.y; y++) {
+                    result.matrix[y][x] = multiplyPosition(x, y, matrix);
+                }
+            });
+        }
+        return result;
+    }
+
+    @Override
+    long[] multiply(long[] vector) {
+        long[] result = new long[this.y];
+        lines(this.y).forEach(line -> result[line] = multiplyLine(this.matrix[line], vector));
+        return result;
+    }
+
+    @Override
+    long[][] multiply(long[][] vectors) {
+        long[][] result = new long[vectors.length][this.y];
+        lines(this.y).forEach(line -> {
+            for (int i = 0; i < vectors.length; i++) {
+                result[i][line] = multiplyLine(this.matrix[line], vectors[i]);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Calculates the value of a line during the multiplication with a vector
+     *
+     * @param line   The line of this matrix
+     * @param vector The values of the vector
+     * @return The sum of the products of the line and the vector
+     */
+    private long multiplyLine(ResidueClassInteger[] line, long[] vector) {
+        long result = 0;
+        for (int i = 0; i < this.x; i++) {
+            if (line[i].residue != this.residue) {
+                throw new IllegalArgumentException("Residues don't match");
+            }
+            result = ResidueClassInteger.add(result, ResidueClassInteger.multiply(line[i].value, vector[i], this.residue), this.residue);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the value which results during matrix multiplication
+     * at a specific point in the matrix
+     *
+     * @param x      The x coordinate in the resulting matrix
+     * @param y      The y coordinate in the resulting matrix
+     * @param matrix The other matrix
+     * @return The value calculated at that position
+     */
+    private ResidueClassInteger multiplyPosition(int x, int y, MatrixBackend matrix) {
+        ResidueClassInteger result = new ResidueClassInteger(0, this.residue);
+        for (int i = 0; i < this.x; i++) {
+            result = result.add(this.matrix[y][i].multiply(matrix.get(x, i)));
+        }
+        return result;
+    }
+
+    @Override
+    public GenericBackend clone() {
+        GenericBackend clone = new GenericBackend(this.x, this.y, this.residue);
+        for (int y = 0; y < this.y; y++) {
+            System.arraycopy(this.matrix[y], 0, clone.matrix[y], 0, this.x);
+        }
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof GenericBackend that) {
+            return x == that.x && y == that.y && Arrays.deepEquals(matrix, that.matrix);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(matrix);
+    }
+}
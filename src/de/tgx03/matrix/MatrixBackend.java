@@ -0,0 +1,271 @@
+package de.tgx03.matrix;
+
+import java.io.Serializable;
+import java.util.stream.IntStream;
+
+/**
+ * The storage and arithmetic behind a residue integer matrix
+ * Depending on the residue a specialized implementation gets selected,
+ * which stores the values more densely and calculates faster than the generic one
+ */
+abstract class MatrixBackend implements Cloneable, Serializable {
+
+    /**
+     * From how many lines on row operations get split across multiple threads
+     */
+    static final int PARALLEL_THRESHOLD = 256;
+
+    final int x;
+    final int y;
+    final long residue;
+
+    /**
+     * Creates a new backend with given dimensions
+     *
+     * @param x       The width of the matrix
+     * @param y       The height of the matrix
+     * @param residue The residue class all entries belong to
+     */
+    MatrixBackend(int x, int y, long residue) {
+        this.x = x;
+        this.y = y;
+        this.residue = residue;
+    }
+
+    /**
+     * Creates a new empty backend best suited for the given residue
+     * GF(2) gets stored as bits, small primes as bytes and everything else as residue integers
+     *
+     * @param x       The width of the matrix
+     * @param y       The height of the matrix
+     * @param residue The residue class all entries belong to
+     * @return The created backend with all entries set to 0
+     */
+    static MatrixBackend create(int x, int y, long residue) {
+        if (residue == 2) {
+            return new BinaryBackend(x, y);
+        } else if (SmallPrimeBackend.supports(residue)) {
+            return new SmallPrimeBackend(x, y, (int) residue);
+        } else {
+            return new GenericBackend(x, y, residue);
+        }
+    }
+
+    /**
+     * Checks whether a value can be stored in the given residue class
+     *
+     * @param value   The value to check
+     * @param residue The residue class the value shall belong to
+     */
+    static void checkValue(long value, long residue) {
+        if (value >= residue || value < 0) {
+            throw new IllegalArgumentException("Value must be lower than residue and bigger than 0");
+        }
+    }
+
+    /**
+     * Returns the indices of a given amount of lines,
+     * which get processed in parallel if there are enough of them
+     *
+     * @param count The amount of lines
+     * @return A stream of all line indices
+     */
+    static IntStream lines(int count) {
+        IntStream lines = IntStream.range(0, count);
+        return count >= PARALLEL_THRESHOLD ? lines.parallel() : lines;
+    }
+
+    /**
+     * Returns the value stored at a specific place
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return The value at that position
+     */
+    abstract long getValue(int x, int y);
+
+    /**
+     * Sets the value at a specific place
+     *
+     * @param x     The x coordinate
+     * @param y     The y coordinate
+     * @param value The new value, must be lower than the residue
+     */
+    abstract void setValue(int x, int y, long value);
+
+    /**
+     * Returns the residue class integer at a specific place
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return The residue integer at that position
+     */
+    ResidueClassInteger get(int x, int y) {
+        return new ResidueClassInteger(getValue(x, y), this.residue);
+    }
+
+    /**
+     * Sets the residue class integer at a specific place
+     *
+     * @param x     The x coordinate
+     * @param y     The y coordinate
+     * @param value The new residue integer
+     */
+    void set(int x, int y, ResidueClassInteger value) {
+        setValue(x, y, value.value);
+    }
+
+    /**
+     * Swaps two lines
+     *
+     * @param i The first line to be swapped
+     * @param j The second line to be swapped with the first
+     */
+    final void swapLines(int i, int j) {
+        if (i == j || i >= this.y || j >= this.y) {
+            throw new IllegalArgumentException("Invalid line numbers");
+        }
+        exchangeLines(i, j);
+    }
+
+    /**
+     * Swaps two lines without checking the line numbers
+     *
+     * @param i The first line to be swapped
+     * @param j The second line to be swapped with the first
+     */
+    abstract void exchangeLines(int i, int j);
+
+    /**
+     * Adds a multiple of one line to another line
+     *
+     * @param source The line that a multiple of should be added to another line
+     * @param target The line the source line shall be added to
+     * @param factor How often the source line shall be added to the target
+     */
+    abstract void addLines(int source, int target, long factor);
+
+    /**
+     * Calculates how often a value needs to be added to a fixed value to make it 0
+     *
+     * @param fixed    The value to be added to
+     * @param toFactor The value which's multiple shall be added to the fixed to make it 0
+     * @return How often it needs to be added
+     */
+    abstract long findFactor(long fixed, long toFactor);
+
+    /**
+     * Multiplies this backend as the left matrix with another backend as the right matrix
+     *
+     * @param other The right matrix
+     * @return The resulting matrix
+     */
+    abstract MatrixBackend multiply(MatrixBackend other);
+
+    /**
+     * Multiplies this backend with a vector
+     *
+     * @param vector The values of the vector, one for each column
+     * @return The values of the resulting vector, one for each line
+     */
+    abstract long[] multiply(long[] vector);
+
+    /**
+     * Multiplies this backend with multiple vectors at once
+     * The vectors become the columns of a matrix, so that the specialized matrix multiplication gets used
+     *
+     * @param vectors The values of the vectors, one for each column
+     * @return The values of the resulting vectors, one for each line
+     */
+    long[][] multiply(long[][] vectors) {
+        MatrixBackend right = create(vectors.length, this.x, this.residue);
+        for (int column = 0; column < vectors.length; column++) {
+            for (int line = 0; line < this.x; line++) {
+                right.setValue(column, line, vectors[column][line]);
+            }
+        }
+        MatrixBackend product = multiply(right);
+        long[][] result = new long[vectors.length][this.y];
+        for (int column = 0; column < vectors.length; column++) {
+            for (int line = 0; line < this.y; line++) {
+                result[column][line] = product.getValue(column, line);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rearranges this matrix in place using the gauss algorithm
+     * Stops as soon as a column without pivot is found
+     */
+    void eliminate() {
+        int column = 0;
+        while (column < this.y && column < this.x) {
+
+            // Set non-zero value to diagonal position
+            if (getValue(column, column) == 0L) {
+                int line = column + 1;
+                while (line < this.y && getValue(column, line) == 0L) {
+                    line++;
+                }
+                if (line == this.y) {
+                    break;
+                }
+                swapLines(line, column);
+            }
+
+            // Set current column below the pivot to zero
+            final long pivot = getValue(column, column);
+            for (int line = column + 1; line < this.y; line++) {
+                addLines(column, line, findFactor(getValue(column, line), pivot));
+            }
+            column++;
+        }
+    }
+
+    /**
+     * Converts this backend to a generic one
+     *
+     * @return A generic backend holding the same values
+     */
+    GenericBackend toGeneric() {
+        GenericBackend result = new GenericBackend(this.x, this.y, this.residue);
+        for (int y = 0; y < this.y; y++) {
+            for (int x = 0; x < this.x; x++) {
+                result.setValue(x, y, getValue(x, y));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public abstract MatrixBackend clone();
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MatrixBackend that)) return false;
+        if (x != that.x || y != that.y || residue != that.residue) return false;
+        for (int y = 0; y < this.y; y++) {
+            for (int x = 0; x < this.x; x++) {
+                if (getValue(x, y) != that.getValue(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int y = 0; y < this.y; y++) {
+            int line = 1;
+            for (int x = 0; x < this.x; x++) {
+                line = 31 * line + Long.hashCode(getValue(x, y));
+            }
+            result = 31 * result + line;
+        }
+        return result;
+    }
+}
@@ -93,6 +93,34 @@ public class ResidueClassInteger extends Number implements Comparable<ResidueCla
         return new ResidueClassInteger(result, this.residue);
     }
 
+    /**
+     * Adds two values of a residue class without creating residue integers
+     *
+     * @param first   The first summand, must be lower than the residue
+     * @param second  The second summand, must be lower than the residue
+     * @param residue The residue class both values belong to
+     * @return The sum inside the residue class
+     */
+    static long add(long first, long second, long residue) {
+        long result = first + second;
+        if (result >= residue || result < 0) {
+            result -= residue;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies two values of a residue class without creating residue integers
+     *
+     * @param first   The first factor, must be lower than the residue
+     * @param second  The second factor, must be lower than the residue
+     * @param residue The residue class both values belong to
+     * @return The product inside the residue class
+     */
+    static long multiply(long first, long second, long residue) {
+        return (first * second) % residue;
+    }
+
     @Override
     public int intValue() {
         return (int) value;
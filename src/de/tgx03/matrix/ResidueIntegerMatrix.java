@@ -1,15 +1,14 @@
 package de.tgx03.matrix;
 
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.stream.IntStream;
 
 /**
  * A class representing a matrix consisting of residue classes
+ * Matrices modulo 2 and modulo small primes automatically use a more compact and faster storage
  */
 public class ResidueIntegerMatrix implements Cloneable, Serializable {
 
-    private final ResidueClassInteger[][] matrix;
+    private final MatrixBackend matrix;
     private final int x;
     private final int y;
 
@@ -27,11 +26,11 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
         if (ints.length % width != 0) {
             throw new IllegalArgumentException("Not enough values to fill the matrix");
         }
-        matrix = new ResidueClassInteger[this.y][this.x];
+        matrix = createBackend(this.x, this.y, ints);
         int current = 0;
         for (int y = 0; y < this.y; y++) {
             for (int x = 0; x < this.x; x++) {
-                matrix[y][x] = ints[current];
+                matrix.set(x, y, ints[current]);
                 current++;
             }
         }
@@ -52,26 +51,25 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
         if (values.length % width != 0) {
             throw new IllegalArgumentException("Not enough values to fill the matrix");
         }
-        matrix = new ResidueClassInteger[this.y][this.x];
+        matrix = MatrixBackend.create(this.x, this.y, residue);
         int current = 0;
         for (int y = 0; y < this.y; y++) {
             for (int x = 0; x < this.x; x++) {
-                matrix[y][x] = new ResidueClassInteger(values[current], residue);
+                matrix.setValue(x, y, values[current]);
                 current++;
             }
         }
     }
 
     /**
-     * Creates a new empty matrix with given dimensions
+     * Creates a new matrix around an existing backend
      *
-     * @param x The width of the matrix
-     * @param y The height of the matrix
+     * @param matrix The backend holding the values of this matrix
      */
-    private ResidueIntegerMatrix(int x, int y) {
-        this.matrix = new ResidueClassInteger[y][x];
-        this.x = x;
-        this.y = y;
+    private ResidueIntegerMatrix(MatrixBackend matrix) {
+        this.matrix = matrix;
+        this.x = matrix.x;
+        this.y = matrix.y;
     }
 
     /**
@@ -82,7 +80,7 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
      * @return The integer at that position
      */
     public long getValue(int x, int y) {
-        return this.matrix[y][x].value;
+        return this.matrix.getValue(x, y);
     }
 
     /**
@@ -93,7 +91,7 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
      * @return The residue integer at that position
      */
     public ResidueClassInteger get(int x, int y) {
-        return this.matrix[y][x];
+        return this.matrix.get(x, y);
     }
 
     /**
@@ -111,12 +109,12 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
         while (column + offset < clone.y && column < clone.x) {
 
             // Set non-zero value to diagonal position
-            if (clone.matrix[column][column + offset].value == 0L) {
+            if (clone.matrix.getValue(column + offset, column) == 0L) {
                 boolean done = false;
                 for (int line = column; line < clone.y && !done; line++) {
-                    if (clone.matrix[line][column + offset].value != 0L) {
+                    if (clone.matrix.getValue(column + offset, line) != 0L) {
                         steps.append("Swapping lines ").append(column).append(" and ").append(line).append(":");
-                        clone.swapLines(line, column);
+                        clone.matrix.swapLines(line, column);
                         steps.append(System.lineSeparator()).append(clone);
                         done = true;
                     }
@@ -130,9 +128,9 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
 
             // Set current column below the pivot to zero
             for (int line = column + 1; line < clone.y; line++) {
-                ResidueClassInteger factor = clone.findFactor(clone.matrix[line][column + offset], clone.matrix[column][column + offset]);
-                steps.append("Adding ").append(factor.value).append(" times line ").append(column).append(" to line ").append(line).append(System.lineSeparator());
-                clone.addLines(column, line, factor);
+                long factor = clone.matrix.findFactor(clone.matrix.getValue(column + offset, line), clone.matrix.getValue(column + offset, column));
+                steps.append("Adding ").append(factor).append(" times line ").append(column).append(" to line ").append(line).append(System.lineSeparator());
+                clone.matrix.addLines(column, line, factor);
                 steps.append(clone).append(System.lineSeparator());
             }
             column++;
@@ -147,33 +145,7 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
      */
     public ResidueIntegerMatrix solve() {
         ResidueIntegerMatrix clone = this.clone();
-        int offset = 0;
-        int column = 0;
-
-        while (column + offset < clone.y && column < clone.x) {
-
-            // Set non-zero value to diagonal position
-            if (clone.matrix[column][column + offset].value == 0L) {
-                boolean done = false;
-                for (int line = column; line < clone.y && !done; line++) {
-                    if (clone.matrix[line][column + offset].value != 0L) {
-                        clone.swapLines(line, column);
-                        done = true;
-                    }
-                }
-                if (!done) {
-                    offset++;
-                    break;
-                }
-            }
-
-            // Set current column below the pivot to zero
-            for (int line = column + 1; line < clone.y; line++) {
-                ResidueClassInteger factor = clone.findFactor(clone.matrix[line][column + offset], clone.matrix[column][column + offset]);
-                clone.addLines(column, line, factor);
-            }
-            column++;
-        }
+        clone.matrix.eliminate();
         return clone;
     }
 
@@ -184,19 +156,30 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
      * @return The resulting vector
      */
     public ResidueIntegerVector multiply(ResidueIntegerVector vector) {
-        if (vector.size() != this.x) {
-            throw new IllegalArgumentException("Vector must have the same number of entries as this matrix hast horizontal entries");
+        checkVector(vector);
+        return new ResidueIntegerVector(this.matrix.multiply(vector.vector), this.matrix.residue);
+    }
+
+    /**
+     * Multiplies this matrix with multiple vectors at once and returns the resulting vectors
+     * This is faster than multiplying every vector on its own,
+     * as the lines of this matrix only need to be read once for all vectors
+     *
+     * @param vectors The vectors to multiply this matrix with
+     * @return The resulting vectors in the same order
+     */
+    public ResidueIntegerVector[] multiplyAll(ResidueIntegerVector... vectors) {
+        long[][] values = new long[vectors.length][];
+        for (int i = 0; i < vectors.length; i++) {
+            checkVector(vectors[i]);
+            values[i] = vectors[i].vector;
         }
-        ResidueClassInteger[] result = new ResidueClassInteger[this.y];
-        final long residue = this.matrix[0][0].residue;
-        for (int line = 0; line < this.y; line++) {
-            ResidueClassInteger current = new ResidueClassInteger(0, residue);
-            for (int column = 0; column < this.matrix[line].length; column++) {
-                current = current.add(this.matrix[line][column]);
-            }
-            result[line] = current;
+        long[][] products = this.matrix.multiply(values);
+        ResidueIntegerVector[] result = new ResidueIntegerVector[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            result[i] = new ResidueIntegerVector(products[i], this.matrix.residue);
         }
-        return new ResidueIntegerVector(result);
+        return result;
     }
 
     /**
@@ -212,91 +195,51 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
         if (this.x != matrix.y) {
             throw new IllegalArgumentException("First matrix must have as many columns as the second matrix has lines");
         }
-        ResidueIntegerMatrix result = new ResidueIntegerMatrix(matrix.x, this.y);
-        if (this.y >= matrix.x) {
-            IntStream.range(0, this.y).parallel().forEach(y -> {
-                for (int x = 0; x < matrix.x; x++) {
-                    result.matrix[y][x] = multiplyPosition(x, y, matrix);
-                }
-            });
-        } else {
-            IntStream.range(0, this.x).parallel().forEach(x -> {
-                for (int y = 0; y < matrix.y; y++) {
-                    result.matrix[y][x] = multiplyPosition(x, y, matrix);
-                }
-            });
+        if (this.matrix.residue != matrix.matrix.residue && this.y > 0 && matrix.y > 0) {
+            throw new IllegalArgumentException("Residues don't match");
         }
-        return result;
+        return new ResidueIntegerMatrix(this.matrix.multiply(matrix.matrix));
     }
 
     /**
-     * Swaps two lines in this matrix
+     * Checks whether a vector can be multiplied with this matrix
      *
-     * @param i The first line to be swapped
-     * @param j The second line to be swapped with the first
+     * @param vector The vector to check
      */
-    private void swapLines(int i, int j) {
-        if (i == j || i >= this.y || j >= this.y) {
-            throw new IllegalArgumentException("Invalid line numbers");
+    private void checkVector(ResidueIntegerVector vector) {
+        if (vector.size() != this.x) {
+            throw new IllegalArgumentException("Vector must have the same number of entries as this matrix hast horizontal entries");
         }
-        ResidueClassInteger[] first = matrix[i];
-        matrix[i] = matrix[j];
-        matrix[j] = first;
-    }
-
-    /**
-     * Adds a multiple of one line to another line
-     *
-     * @param source The line that a multiple of should be added to another line
-     * @param target The line the source line shall be added to
-     * @param factor How often the source line shall be added to the target
-     */
-    private void addLines(int source, int target, ResidueClassInteger factor) {
-        for (int i = 0; i < this.x; i++) {
-            matrix[target][i] = matrix[target][i].add(matrix[source][i].multiply(factor));
+        if (vector.residue != this.matrix.residue && this.x > 0 && this.y > 0) {
+            throw new IllegalArgumentException("Residues don't match");
         }
     }
 
     /**
-     * Calculates how often a value needs to be added to a fixed value to make it 0
+     * Chooses the backend for a matrix created from residue integers
+     * The specialized backends may only be used if all entries share the same residue
      *
-     * @param fixed    The value to be added to
-     * @param toFactor The value which's multiple shall be added to the fixed to make it 0
-     * @return How often it needs to be added
+     * @param x    The width of the matrix
+     * @param y    The height of the matrix
+     * @param ints All the entries of the matrix
+     * @return The empty backend to fill
      */
-    private ResidueClassInteger findFactor(ResidueClassInteger fixed, ResidueClassInteger toFactor) {
-        long current = 0;
-        final long residue = fixed.residue;
-        while (((current * toFactor.value) + fixed.value) % residue != 0) {
-            current++;
+    private static MatrixBackend createBackend(int x, int y, ResidueClassInteger... ints) {
+        if (ints.length == 0) {
+            return new GenericBackend(x, y, 0);
         }
-        return new ResidueClassInteger(current, residue);
-    }
-
-    /**
-     * Calculates the value which results during matrix multiplication
-     * at a specific point in the matrix
-     *
-     * @param x      The x coordinate in the resulting matrix
-     * @param y      The y coordinate in the resulting matrix
-     * @param matrix The other matrix
-     * @return The value calculated at that position
-     */
-    private ResidueClassInteger multiplyPosition(int x, int y, ResidueIntegerMatrix matrix) {
-        ResidueClassInteger result = new ResidueClassInteger(0, this.matrix[0][0].residue);
-        for (int i = 0; i < this.x; i++) {
-            result = result.add(this.matrix[y][i].multiply(matrix.matrix[i][x]));
+        final long residue = ints[0].residue;
+        for (ResidueClassInteger current : ints) {
+            if (current.residue != residue) {
+                return new GenericBackend(x, y, residue);
+            }
         }
-        return result;
+        return MatrixBackend.create(x, y, residue);
     }
 
     @Override
     public ResidueIntegerMatrix clone() {
-        ResidueIntegerMatrix clone = new ResidueIntegerMatrix(this.x, this.y);
-        for (int y = 0; y < this.y; y++) {
-            System.arraycopy(this.matrix[y], 0, clone.matrix[y], 0, this.x);
-        }
-        return clone;
+        return new ResidueIntegerMatrix(this.matrix.clone());
     }
 
     @Override
@@ -308,7 +251,7 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
                 if (x != 0) {
                     builder.append(";");
                 }
-                builder.append(matrix[y][x]);
+                builder.append(matrix.getValue(x, y));
             }
             builder.append("]").append(System.lineSeparator());
         }
@@ -320,12 +263,12 @@ public class ResidueIntegerMatrix implements Cloneable, Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ResidueIntegerMatrix that = (ResidueIntegerMatrix) o;
-        return x == that.x && y == that.y && Arrays.deepEquals(matrix, that.matrix);
+        return x == that.x && y == that.y && matrix.equals(that.matrix);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(matrix);
+        return matrix.hashCode();
     }
 
     /**
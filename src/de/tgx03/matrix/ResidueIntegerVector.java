@@ -2,22 +2,38 @@ package de.tgx03.matrix;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 /**
  * A class representing a vector which operates inside a residue class
+ * The values are stored as plain longs, so that operations don't need to create residue integers
+ * and long vectors can be processed by multiple threads
  */
 public class ResidueIntegerVector implements Cloneable, Serializable {
 
-    private final ResidueClassInteger[] vector;
+    /**
+     * From how many entries on operations get split across multiple threads
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    final long[] vector;
+    final long residue;
 
     /**
      * Creates a new vector from a given set of residue integers
+     * All integers must belong to the same residue class
      *
      * @param values The values this vector holds
      */
     public ResidueIntegerVector(ResidueClassInteger... values) {
-        vector = new ResidueClassInteger[values.length];
-        System.arraycopy(values, 0, vector, 0, values.length);
+        vector = new long[values.length];
+        residue = values.length == 0 ? 0 : values[0].residue;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].residue != residue) {
+                throw new IllegalArgumentException("Residues don't match");
+            }
+            vector[i] = values[i].value;
+        }
     }
 
     /**
@@ -27,20 +43,23 @@ public class ResidueIntegerVector implements Cloneable, Serializable {
      * @param values  The values of this vector
      */
     public ResidueIntegerVector(long residue, long... values) {
-        vector = new ResidueClassInteger[values.length];
+        vector = new long[values.length];
+        this.residue = residue;
         for (int i = 0; i < vector.length; i++) {
-            ResidueClassInteger current = new ResidueClassInteger(values[i], residue);
-            vector[i] = current;
+            MatrixBackend.checkValue(values[i], residue);
+            vector[i] = values[i];
         }
     }
 
     /**
-     * Initializes a new empty vector with a given size
+     * Creates a new vector directly using the given values
      *
-     * @param size The size of the new vector
+     * @param vector  The values of this vector, which must already be lower than the residue
+     * @param residue The residue class this vector is in
      */
-    private ResidueIntegerVector(int size) {
-        vector = new ResidueClassInteger[size];
+    ResidueIntegerVector(long[] vector, long residue) {
+        this.vector = vector;
+        this.residue = residue;
     }
 
     /**
@@ -50,7 +69,7 @@ public class ResidueIntegerVector implements Cloneable, Serializable {
      * @return The value at that position
      */
     public long getValue(int position) {
-        return vector[position].value;
+        return vector[position];
     }
 
     /**
@@ -60,7 +79,7 @@ public class ResidueIntegerVector implements Cloneable, Serializable {
      * @return The value at that position
      */
     public ResidueClassInteger get(int position) {
-        return vector[position];
+        return new ResidueClassInteger(vector[position], residue);
     }
 
     /**
@@ -79,14 +98,10 @@ public class ResidueIntegerVector implements Cloneable, Serializable {
      * @return The resulting vector
      */
     public ResidueIntegerVector add(ResidueIntegerVector vector) {
-        if (this.vector.length != vector.vector.length) {
-            throw new IllegalArgumentException("Vectors must have the same size to add them");
-        }
-        ResidueIntegerVector result = new ResidueIntegerVector(this.vector.length);
-        for (int i = 0; i < this.vector.length; i++) {
-            result.vector[i] = this.vector[i].add(vector.vector[i]);
-        }
-        return result;
+        checkCompatible(vector);
+        long[] result = new long[this.vector.length];
+        positions(result.length).forEach(i -> result[i] = ResidueClassInteger.add(this.vector[i], vector.vector[i], residue));
+        return new ResidueIntegerVector(result, residue);
     }
 
     /**
@@ -98,32 +113,17 @@ public class ResidueIntegerVector implements Cloneable, Serializable {
      * @return The resulting vector
      */
     public ResidueIntegerVector multiply(ResidueIntegerVector vector) {
-        if (this.vector.length != vector.vector.length) {
-            throw new IllegalArgumentException("Vectors must have the same size to add them");
-        }
-
-        ResidueClassInteger[] first = new ResidueClassInteger[this.vector.length];
-        ResidueClassInteger[] second = new ResidueClassInteger[vector.vector.length];
-        System.arraycopy(this.vector, 1, first, 0, this.vector.length - 1);
-        System.arraycopy(vector.vector, 1, second, 0, this.vector.length - 1);
-        first[first.length - 1] = this.vector[0];
-        second[second.length - 1] = vector.vector[0];
-
-        ResidueIntegerVector result = new ResidueIntegerVector(this.vector.length);
-
-        for (int i = 0; i < first.length; i++) {
-            ResidueClassInteger minuend;
-            ResidueClassInteger subtrahend;
-            if (i == first.length - 1) {
-                minuend = first[i].multiply(second[0]);
-                subtrahend = first[0].multiply(second[i]);
-            } else {
-                minuend = first[i].multiply(second[i + 1]);
-                subtrahend = first[i + 1].multiply(second[i]);
-            }
-            result.vector[i] = minuend.subtract(subtrahend);
-        }
-        return result;
+        checkCompatible(vector);
+        final int size = this.vector.length;
+        long[] result = new long[size];
+        positions(size).forEach(i -> {
+            int first = (i + 1) % size;
+            int second = (i + 2) % size;
+            long minuend = ResidueClassInteger.multiply(this.vector[first], vector.vector[second], residue);
+            long subtrahend = ResidueClassInteger.multiply(this.vector[second], vector.vector[first], residue);
+            result[i] = ResidueClassInteger.add(minuend, subtrahend == 0 ? 0 : residue - subtrahend, residue);
+        });
+        return new ResidueIntegerVector(result, residue);
     }
 
     /**
@@ -133,13 +133,105 @@ public class ResidueIntegerVector implements Cloneable, Serializable {
      * @return The resulting vector
      */
     public ResidueIntegerVector multiply(ResidueClassInteger value) {
-        ResidueIntegerVector result = new ResidueIntegerVector(this.vector.length);
-        for (int i = 0; i < this.vector.length; i++) {
-            result.vector[i] = this.vector[i].multiply(value);
-        }
+        ResidueIntegerVector result = this.clone();
+        result.scale(value);
         return result;
     }
 
+    /**
+     * Calculates the dot product of this vector and another vector
+     * For empty vectors this is 0 in the residue class of the other vector if it has one
+     *
+     * @param vector The other vector
+     * @return The sum of the products of all entries
+     */
+    public ResidueClassInteger dot(ResidueIntegerVector vector) {
+        checkCompatible(vector);
+        if (this.vector.length == 0) {
+            long residue = vector.residue != 0 ? vector.residue : this.residue;
+            return new ResidueClassInteger(0, residue != 0 ? residue : 1);
+        }
+        long result = positions(this.vector.length)
+                .mapToLong(i -> ResidueClassInteger.multiply(this.vector[i], vector.vector[i], residue))
+                .reduce(0, (first, second) -> ResidueClassInteger.add(first, second, residue));
+        return new ResidueClassInteger(result, residue);
+    }
+
+    /**
+     * Multiplies this vector with the given value in place
+     *
+     * @param value The factor to apply to this vector
+     */
+    public void scale(ResidueClassInteger value) {
+        checkResidue(value);
+        final long factor = value.value;
+        positions(vector.length).forEach(i -> vector[i] = ResidueClassInteger.multiply(vector[i], factor, residue));
+    }
+
+    /**
+     * Adds a multiple of another vector to this vector in place (axpy)
+     *
+     * @param factor How often the other vector shall be added
+     * @param vector The vector to add to this vector
+     */
+    public void addMultiple(ResidueClassInteger factor, ResidueIntegerVector vector) {
+        checkCompatible(vector);
+        checkResidue(factor);
+        final long multiple = factor.value;
+        positions(this.vector.length).forEach(i -> this.vector[i] = ResidueClassInteger.add(this.vector[i], ResidueClassInteger.multiply(multiple, vector.vector[i], residue), residue));
+    }
+
+    /**
+     * Multiplies this vector with a given value and then adds another vector to it in place
+     *
+     * @param factor The factor to apply to this vector
+     * @param vector The vector to add afterwards
+     */
+    public void scaleAdd(ResidueClassInteger factor, ResidueIntegerVector vector) {
+        checkCompatible(vector);
+        checkResidue(factor);
+        final long multiple = factor.value;
+        positions(this.vector.length).forEach(i -> this.vector[i] = ResidueClassInteger.add(ResidueClassInteger.multiply(multiple, this.vector[i], residue), vector.vector[i], residue));
+    }
+
+    /**
+     * Checks whether another vector has the same size and residue as this vector
+     *
+     * @param vector The other vector
+     */
+    private void checkCompatible(ResidueIntegerVector vector) {
+        if (this.vector.length != vector.vector.length) {
+            throw new IllegalArgumentException("Vectors must have the same size");
+        }
+        if (this.residue != vector.residue && this.vector.length != 0) {
+            throw new IllegalArgumentException("Residues don't match");
+        }
+    }
+
+    /**
+     * Checks whether a residue integer belongs to the same residue class as this vector
+     * Empty vectors accept residue integers of every residue class
+     *
+     * @param value The residue integer to check
+     */
+    private void checkResidue(ResidueClassInteger value) {
+        if (value.residue != this.residue && this.vector.length != 0) {
+            throw new IllegalArgumentException("Residues don't match");
+        }
+    }
+
+    /**
+     * Returns all positions of a vector with a given size,
+     * which get processed in parallel if the vector is long enough
+     *
+     * @param size The size of the vector
+     * @return A stream of all positions
+     */
+    private static IntStream positions(int size) {
+        IntStream positions = IntStream.range(0, size);
+        return size >= PARALLEL_THRESHOLD ? positions.parallel() : positions;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder(this.vector.length * 2);
@@ -165,15 +257,13 @@ public class ResidueIntegerVector implements Cloneable, Serializable {
             return true;
         }
         if (o instanceof ResidueIntegerVector vector) {
-            return Arrays.equals(this.vector, vector.vector);
+            return this.residue == vector.residue && Arrays.equals(this.vector, vector.vector);
         }
         return false;
     }
 
     @Override
     public ResidueIntegerVector clone() {
-        ResidueIntegerVector clone = new ResidueIntegerVector(this.vector.length);
-        System.arraycopy(this.vector, 0, clone.vector, 0, this.vector.length);
-        return clone;
+        return new ResidueIntegerVector(this.vector.clone(), this.residue);
     }
 }
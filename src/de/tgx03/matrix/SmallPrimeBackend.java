@@ -0,0 +1,198 @@
+package de.tgx03.matrix;
+
+import java.util.Arrays;
+
+/**
+ * A backend for matrices over small prime fields
+ * Every entry is stored as a single byte and products and inverses are looked up
+ * in tables shared by all matrices of the same prime
+ */
+final class SmallPrimeBackend extends MatrixBackend {
+
+    /**
+     * The biggest prime whose values still fit into a byte
+     */
+    static final int MAX_PRIME = 251;
+
+    private static final Tables[] TABLES = new Tables[MAX_PRIME + 1];
+
+    private final byte[][] lines;
+    private final int prime;
+
+    /**
+     * Creates a new empty backend with given dimensions
+     *
+     * @param x     The width of the matrix
+     * @param y     The height of the matrix
+     * @param prime The prime all entries belong to
+     */
+    SmallPrimeBackend(int x, int y, int prime) {
+        super(x, y, prime);
+        this.prime = prime;
+        this.lines = new byte[y][x];
+    }
+
+    /**
+     * Checks whether this backend can be used for a given residue
+     *
+     * @param residue The residue to check
+     * @return Whether the residue is a prime small enough for this backend
+     */
+    static boolean supports(long residue) {
+        if (residue < 3 || residue > MAX_PRIME) {
+            return false;
+        }
+        for (long divisor = 2; divisor * divisor <= residue; divisor++) {
+            if (residue % divisor == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    long getValue(int x, int y) {
+        return this.lines[y][x] & 0xFF;
+    }
+
+    @Override
+    void setValue(int x, int y, long value) {
+        checkValue(value, this.prime);
+        this.lines[y][x] = (byte) value;
+    }
+
+    @Override
+    void exchangeLines(int i, int j) {
+        byte[] first = lines[i];
+        lines[i] = lines[j];
+        lines[j] = first;
+    }
+
+    @Override
+    void addLines(int source, int target, long factor) {
+        if (factor == 0L) {
+            return;
+        }
+        final byte[] products = tables().products;
+        final int offset = (int) factor * this.prime;
+        final byte[] from = lines[source];
+        final byte[] to = lines[target];
+        for (int i = 0; i < this.x; i++) {
+            int sum = (to[i] & 0xFF) + (products[offset + (from[i] & 0xFF)] & 0xFF);
+            if (sum >= this.prime) {
+                sum -= this.prime;
+            }
+            to[i] = (byte) sum;
+        }
+    }
+
+    @Override
+    long findFactor(long fixed, long toFactor) {
+        if (fixed == 0L) {
+            return 0L;
+        }
+        Tables tables = tables();
+        return tables.products[(int) (this.prime - fixed) * this.prime + (tables.inverses[(int) toFactor] & 0xFF)] & 0xFF;
+    }
+
+    @Override
+    MatrixBackend multiply(MatrixBackend matrix) {
+        if (!(matrix instanceof SmallPrimeBackend other)) {
+            return toGeneric().multiply(matrix);
+        }
+        SmallPrimeBackend result = new SmallPrimeBackend(other.x, this.y, this.prime);
+        lines(this.y).forEach(line -> {
+            // Products are below 2^16, so the sums only get reduced once at the end
+            final long[] sums = new long[other.x];
+            final byte[] left = this.lines[line];
+            for (int i = 0; i < this.x; i++) {
+                final int factor = left[i] & 0xFF;
+                if (factor != 0) {
+                    final byte[] right = other.lines[i];
+                    for (int x = 0; x < other.x; x++) {
+                        sums[x] += factor * (right[x] & 0xFF);
+                    }
+                }
+            }
+            final byte[] target = result.lines[line];
+            for (int x = 0; x < other.x; x++) {
+                target[x] = (byte) (sums[x] % this.prime);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    long[] multiply(long[] vector) {
+        long[] result = new long[this.y];
+        lines(this.y).forEach(line -> {
+            final byte[] values = this.lines[line];
+            long sum = 0;
+            for (int i = 0; i < this.x; i++) {
+                sum += (values[i] & 0xFF) * vector[i];
+            }
+            result[line] = sum % this.prime;
+        });
+        return result;
+    }
+
+    /**
+     * Returns the lookup tables for the prime of this matrix
+     *
+     * @return The shared lookup tables
+     */
+    private Tables tables() {
+        Tables tables = TABLES[this.prime];
+        if (tables == null) {
+            tables = new Tables(this.prime);
+            TABLES[this.prime] = tables;
+        }
+        return tables;
+    }
+
+    @Override
+    public SmallPrimeBackend clone() {
+        SmallPrimeBackend clone = new SmallPrimeBackend(this.x, this.y, this.prime);
+        for (int y = 0; y < this.y; y++) {
+            System.arraycopy(this.lines[y], 0, clone.lines[y], 0, this.x);
+        }
+        return clone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof SmallPrimeBackend that) {
+            return x == that.x && y == that.y && prime == that.prime && Arrays.deepEquals(lines, that.lines);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * The lookup tables for the arithmetic of a single prime
+     * As they never change after creation, they may be shared between threads
+     */
+    private static final class Tables {
+
+        private final byte[] products;
+        private final byte[] inverses;
+
+        /**
+         * Calculates all products and inverses of a prime
+         *
+         * @param prime The prime to calculate the tables for
+         */
+        private Tables(int prime) {
+            this.products = new byte[prime * prime];
+            this.inverses = new byte[prime];
+            for (int a = 0; a < prime; a++) {
+                for (int b = 0; b < prime; b++) {
+                    int product = (a * b) % prime;
+                    this.products[a * prime + b] = (byte) product;
+                    if (product == 1) {
+                        this.inverses[a] = (byte) b;
+                    }
+                }
+            }
+        }
+    }
+}